@@ -1,20 +1,63 @@
 package com.example.userprofiles.controller;
 
+import com.example.userprofiles.exception.AvatarTooLargeException;
+import com.example.userprofiles.exception.DuplicateEmailException;
+import com.example.userprofiles.exception.InvalidProfileException;
+import com.example.userprofiles.exception.InvalidQueryException;
+import com.example.userprofiles.exception.ProfileNotFoundException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Maps failures to RFC 7807 problem responses ({@code application/problem+json}).
+ */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    @ExceptionHandler(ProfileNotFoundException.class)
+    public ResponseEntity<ProblemDetail> handleProfileNotFound(ProfileNotFoundException ex) {
+        return problem(HttpStatus.NOT_FOUND, "Profile not found", ex.getMessage());
+    }
+
+    /**
+     * The same 404 for handlers that get a missing profile back as a result, so the hot
+     * not-found path skips exception resolution entirely.
+     */
+    static ResponseEntity<ProblemDetail> profileNotFound(Long id) {
+        return problem(HttpStatus.NOT_FOUND, "Profile not found", ProfileNotFoundException.message(id));
+    }
+
+    @ExceptionHandler(DuplicateEmailException.class)
+    public ResponseEntity<ProblemDetail> handleDuplicateEmail(DuplicateEmailException ex) {
+        return problem(HttpStatus.CONFLICT, "Email already exists", ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidProfileException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidProfile(InvalidProfileException ex) {
+        return problem(HttpStatus.BAD_REQUEST, "Invalid profile data", ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidQueryException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidQuery(InvalidQueryException ex) {
+        return problem(HttpStatus.BAD_REQUEST, "Invalid query", ex.getMessage());
+    }
+
+    @ExceptionHandler(AvatarTooLargeException.class)
+    public ResponseEntity<ProblemDetail> handleAvatarTooLarge(AvatarTooLargeException ex) {
+        return problem(HttpStatus.PAYLOAD_TOO_LARGE, "Upload too large", ex.getMessage());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<Map<String, Object>> handleValidationExceptions(
+    public ResponseEntity<ProblemDetail> handleValidationExceptions(
             MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getAllErrors().forEach((error) -> {
@@ -22,12 +65,24 @@ public class GlobalExceptionHandler {
             String errorMessage = error.getDefaultMessage();
             errors.put(fieldName, errorMessage);
         });
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("errors", errors);
-        response.put("message", "Validation failed");
-        
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Validation failed");
+        problem.setTitle("Validation failed");
+        problem.setProperty("errors", errors);
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(problem);
     }
-}
 
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ProblemDetail> handleMaxUploadSize(MaxUploadSizeExceededException ex) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.PAYLOAD_TOO_LARGE, "Upload exceeds the maximum allowed size");
+        problem.setTitle("Upload too large");
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(problem);
+    }
+
+    private static ResponseEntity<ProblemDetail> problem(HttpStatus status, String title, String detail) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, detail);
+        problem.setTitle(title);
+        return ResponseEntity.status(status).body(problem);
+    }
+}
@@ -1,18 +1,23 @@
 package com.example.userprofiles.controller;
 
 import com.example.userprofiles.dto.UserProfileCreateDTO;
+import com.example.userprofiles.dto.UserProfileFilterDTO;
 import com.example.userprofiles.dto.UserProfileResponseDTO;
 import com.example.userprofiles.dto.UserProfileUpdateDTO;
+import com.example.userprofiles.service.AvatarStorageService;
 import com.example.userprofiles.service.UserProfileService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
-import java.util.Map;
 
 @RestController
 @RequestMapping("/api/profiles")
@@ -21,64 +26,61 @@ import java.util.Map;
 @Validated
 public class UserProfileController {
 
+    // Stored relative, so the persisted URL never depends on the request's Host header
+    private static final String AVATAR_PATH = "/api/avatars/";
+
     private final UserProfileService profileService;
+    private final AvatarStorageService avatarStorage;
 
     @GetMapping
     public ResponseEntity<List<UserProfileResponseDTO>> getAllProfiles(
+            @Valid UserProfileFilterDTO filter,
+            @RequestParam(required = false) String sort,
             @RequestParam(defaultValue = "0") int skip,
             @RequestParam(defaultValue = "100") int limit) {
-        List<UserProfileResponseDTO> profiles = profileService.getAllProfiles(skip, limit);
+        List<UserProfileResponseDTO> profiles = profileService.getAllProfiles(filter, sort, skip, limit);
         return ResponseEntity.ok(profiles);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<UserProfileResponseDTO> getProfile(@PathVariable Long id) {
-        try {
-            UserProfileResponseDTO profile = profileService.getProfileById(id);
-            return ResponseEntity.ok(profile);
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(null);
-        }
+    public ResponseEntity<?> getProfile(@PathVariable Long id) {
+        return profileService.getProfileById(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> GlobalExceptionHandler.profileNotFound(id));
     }
 
     @PostMapping
-    public ResponseEntity<?> createProfile(@Valid @RequestBody UserProfileCreateDTO createDTO) {
-        try {
-            UserProfileResponseDTO profile = profileService.createProfile(createDTO);
-            return ResponseEntity.status(HttpStatus.CREATED).body(profile);
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of("error", e.getMessage()));
-        }
+    public ResponseEntity<UserProfileResponseDTO> createProfile(@Valid @RequestBody UserProfileCreateDTO createDTO) {
+        UserProfileResponseDTO profile = profileService.createProfile(createDTO);
+        return ResponseEntity.status(HttpStatus.CREATED).body(profile);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateProfile(
+    public ResponseEntity<UserProfileResponseDTO> updateProfile(
             @PathVariable Long id,
             @Valid @RequestBody UserProfileUpdateDTO updateDTO) {
-        try {
-            UserProfileResponseDTO profile = profileService.updateProfile(id, updateDTO);
-            return ResponseEntity.ok(profile);
-        } catch (RuntimeException e) {
-            if (e.getMessage().contains("not found")) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(Map.of("error", e.getMessage()));
-            }
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of("error", e.getMessage()));
-        }
+        UserProfileResponseDTO profile = profileService.updateProfile(id, updateDTO);
+        return ResponseEntity.ok(profile);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteProfile(@PathVariable Long id) {
-        try {
-            profileService.deleteProfile(id);
-            return ResponseEntity.noContent().build();
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("error", e.getMessage()));
+    public ResponseEntity<Void> deleteProfile(@PathVariable Long id) {
+        profileService.deleteProfile(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping(value = "/{id}/avatar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<UserProfileResponseDTO> uploadAvatar(
+            @PathVariable Long id,
+            @RequestParam("file") MultipartFile file) throws IOException {
+        // Checked first so uploads for unknown ids never reach the disk or the image decoder;
+        // the file is stored outside any transaction and the profile updated afterwards
+        profileService.requireProfileExists(id);
+        String filename;
+        try (InputStream content = file.getInputStream()) {
+            filename = avatarStorage.store(content);
         }
+        UserProfileResponseDTO profile = profileService.updateAvatarUrl(id, AVATAR_PATH + filename);
+        return ResponseEntity.ok(profile);
     }
 }
-
@@ -0,0 +1,39 @@
+package com.example.userprofiles.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional list filters, bound from query parameters. Unset fields do not restrict the result.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProfileFilterDTO {
+
+    @Size(max = 100, message = "Location must be less than 100 characters")
+    private String location;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdAfter;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdBefore;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedAfter;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedBefore;
+
+    @Size(max = 100, message = "Name prefix must be less than 100 characters")
+    private String namePrefix;
+
+    @Size(max = 255, message = "Email prefix must be less than 255 characters")
+    private String emailPrefix;
+}
@@ -22,10 +22,6 @@ public class UserProfileUpdateDTO {
     @Size(max = 1000, message = "Bio must be less than 1000 characters")
     private String bio;
 
-    @URL(message = "Avatar URL must be a valid URL")
-    @Size(max = 500, message = "Avatar URL must be less than 500 characters")
-    private String avatarUrl;
-
     @Pattern(regexp = "^[\\d\\s\\-\\(\\)\\+]+$", message = "Phone number contains invalid characters")
     @Size(min = 10, max = 20, message = "Phone number must be between 10 and 20 characters")
     private String phone;
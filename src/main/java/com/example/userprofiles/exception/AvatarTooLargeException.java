@@ -0,0 +1,8 @@
+package com.example.userprofiles.exception;
+
+public class AvatarTooLargeException extends DomainException {
+
+    public AvatarTooLargeException(long maxSizeBytes) {
+        super("Avatar must be at most " + maxSizeBytes + " bytes");
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.userprofiles.exception;
+
+/**
+ * Base class for expected business failures.
+ *
+ * These are raised on routine paths (missing ids, duplicate emails), so they skip
+ * stack trace capture and suppression bookkeeping. Their HTTP mapping lives in
+ * {@link com.example.userprofiles.controller.GlobalExceptionHandler}.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.userprofiles.exception;
+
+public class DuplicateEmailException extends DomainException {
+
+    public DuplicateEmailException(String email) {
+        super("Email already exists: " + email);
+    }
+}
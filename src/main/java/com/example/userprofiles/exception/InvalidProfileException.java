@@ -0,0 +1,12 @@
+package com.example.userprofiles.exception;
+
+/**
+ * Input that passed bean validation but was rejected by a service-level rule,
+ * such as the phone digit count or an unreadable avatar image.
+ */
+public class InvalidProfileException extends DomainException {
+
+    public InvalidProfileException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.userprofiles.exception;
+
+/**
+ * Unsupported list parameters, such as an unknown sort key or a negative offset.
+ */
+public class InvalidQueryException extends DomainException {
+
+    public InvalidQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.userprofiles.exception;
+
+public class ProfileNotFoundException extends DomainException {
+
+    public ProfileNotFoundException(Long id) {
+        super(message(id));
+    }
+
+    public static String message(Long id) {
+        return "Profile not found with id: " + id;
+    }
+}
@@ -12,7 +12,11 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "user_profiles", indexes = {
     @Index(name = "idx_email", columnList = "email"),
-    @Index(name = "idx_name", columnList = "name")
+    @Index(name = "idx_name", columnList = "name"),
+    @Index(name = "idx_location_created_at", columnList = "location, created_at"),
+    @Index(name = "idx_location_updated_at", columnList = "location, updated_at"),
+    @Index(name = "idx_created_at", columnList = "created_at"),
+    @Index(name = "idx_updated_at", columnList = "updated_at")
 })
 @Data
 @NoArgsConstructor
@@ -0,0 +1,38 @@
+package com.example.userprofiles.observability;
+
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * SQL statements executed while handling one request.
+ */
+@Getter
+public class RequestSqlStats {
+
+    private final String request;
+    private final Map<String, Integer> executions = new LinkedHashMap<>();
+    private int statementCount;
+    private long totalNanos;
+
+    RequestSqlStats(String request) {
+        this.request = request;
+    }
+
+    void record(String sql, long elapsedNanos) {
+        statementCount++;
+        totalNanos += elapsedNanos;
+        executions.merge(sql, 1, Integer::sum);
+    }
+
+    /**
+     * Statements run more than once with the same SQL, the usual signature of an N+1 access pattern.
+     */
+    public Map<String, Integer> getRepeatedStatements() {
+        return executions.entrySet().stream()
+                .filter(entry -> entry.getValue() > 1)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.userprofiles.observability;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Scopes SQL statement counting to each HTTP request, and reports it under the matched handler pattern
+ * so per-endpoint statement budgets apply.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "sql.observability.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlRequestTrackingFilter extends OncePerRequestFilter {
+
+    private final SqlStatementMonitor monitor;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        monitor.beginRequest(request.getMethod() + " " + request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            monitor.endRequest(pattern == null ? null : request.getMethod() + " " + pattern);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.userprofiles.observability;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Production-safe replacement for {@code spring.jpa.show-sql}.
+ *
+ * Every statement is timed, but only slow statements, a random sample of the rest, and requests
+ * that exceed their statement budget are logged. Each endpoint ({@code "<METHOD> <handler pattern>"})
+ * can have its own budget in {@code sql.observability.expected-statements}; others use the default.
+ * Log calls are queued to a background thread so request threads never block on appenders. When the
+ * queue is full, entries are dropped and counted.
+ */
+@Slf4j(topic = "sql.observability")
+@Component
+@ConditionalOnProperty(name = "sql.observability.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatementMonitor {
+
+    private final long slowThresholdNanos;
+    private final int maxStatementsPerRequest;
+    private final Map<String, Integer> expectedStatements;
+    private final double sampleRate;
+
+    private final ThreadLocal<RequestSqlStats> currentRequest = new ThreadLocal<>();
+    private final BlockingQueue<Runnable> pending;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+
+    public SqlStatementMonitor(
+            @Value("${sql.observability.slow-threshold-ms:200}") long slowThresholdMs,
+            @Value("${sql.observability.max-statements-per-request:2}") int maxStatementsPerRequest,
+            @Value("${sql.observability.expected-statements:}") String expectedStatements,
+            @Value("${sql.observability.sample-rate:0.0}") double sampleRate,
+            @Value("${sql.observability.queue-capacity:1024}") int queueCapacity) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.maxStatementsPerRequest = maxStatementsPerRequest;
+        this.expectedStatements = parseExpectedStatements(expectedStatements);
+        this.sampleRate = sampleRate;
+        this.pending = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::drain, "sql-observability-log");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void record(String sql, long elapsedNanos) {
+        RequestSqlStats stats = currentRequest.get();
+        if (stats != null) {
+            stats.record(sql, elapsedNanos);
+        }
+
+        if (elapsedNanos >= slowThresholdNanos) {
+            String request = stats == null ? "-" : stats.getRequest();
+            enqueue(() -> log.warn("Slow SQL ({} ms) in {}: {}", toMillis(elapsedNanos), request, sql));
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            enqueue(() -> log.info("Sampled SQL ({} ms): {}", toMillis(elapsedNanos), sql));
+        }
+    }
+
+    public void beginRequest(String request) {
+        currentRequest.set(new RequestSqlStats(request));
+    }
+
+    /**
+     * Stops tracking the current thread's request and reports it if it ran more statements than expected.
+     *
+     * @param endpoint the handler that served the request, e.g. {@code "DELETE /api/profiles/{id}"},
+     *                 or {@code null} when no handler matched
+     */
+    public RequestSqlStats endRequest(String endpoint) {
+        RequestSqlStats stats = currentRequest.get();
+        currentRequest.remove();
+        if (stats == null) {
+            return null;
+        }
+
+        Map<String, Integer> repeated = stats.getRepeatedStatements();
+        int expected = endpoint == null ? maxStatementsPerRequest
+                : expectedStatements.getOrDefault(endpoint, maxStatementsPerRequest);
+        if (stats.getStatementCount() > expected) {
+            enqueue(() -> log.warn("{} ran {} SQL statements in {} ms (expected at most {}): {}",
+                    stats.getRequest(), stats.getStatementCount(), toMillis(stats.getTotalNanos()),
+                    expected, stats.getExecutions()));
+        }
+        if (!repeated.isEmpty()) {
+            enqueue(() -> log.warn("{} repeated SQL statements, possible N+1: {}", stats.getRequest(), repeated));
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(1));
+    }
+
+    private void enqueue(Runnable entry) {
+        if (!pending.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                run(pending.take());
+                long droppedEntries = dropped.sumThenReset();
+                if (droppedEntries > 0) {
+                    log.warn("Dropped {} SQL observability log entries; the queue was full", droppedEntries);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Runnable entry;
+        while ((entry = pending.poll()) != null) {
+            run(entry);
+        }
+    }
+
+    private static void run(Runnable entry) {
+        try {
+            entry.run();
+        } catch (RuntimeException e) {
+            // A failing appender must not stop the writer thread
+        }
+    }
+
+    /**
+     * Parses {@code "<METHOD> <pattern>=<count>"} entries separated by commas.
+     */
+    private static Map<String, Integer> parseExpectedStatements(String value) {
+        Map<String, Integer> result = new HashMap<>();
+        for (String entry : StringUtils.commaDelimitedListToStringArray(value)) {
+            int separator = entry.lastIndexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException(
+                        "sql.observability.expected-statements entries must look like 'GET /path=1': " + entry);
+            }
+            result.put(entry.substring(0, separator).trim(), Integer.parseInt(entry.substring(separator + 1).trim()));
+        }
+        return Map.copyOf(result);
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.userprofiles.observability;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Wraps every {@link DataSource} so that statement executions are timed and reported to
+ * {@link SqlStatementMonitor}. Uses plain JDK proxies, so no driver or pool changes are needed.
+ */
+@Component
+@ConditionalOnProperty(name = "sql.observability.enabled", havingValue = "true", matchIfMissing = true)
+public class TimingDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SqlStatementMonitor> monitor;
+
+    public TimingDataSourcePostProcessor(ObjectProvider<SqlStatementMonitor> monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof TimingDataSource)) {
+            return new TimingDataSource(dataSource, monitor.getObject());
+        }
+        return bean;
+    }
+
+    static class TimingDataSource extends DelegatingDataSource {
+
+        private final SqlStatementMonitor monitor;
+
+        TimingDataSource(DataSource target, SqlStatementMonitor monitor) {
+            super(target);
+            this.monitor = monitor;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrapConnection(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return wrapConnection(super.getConnection(username, password));
+        }
+
+        private Connection wrapConnection(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (result instanceof Statement statement) {
+                            // Prepared statements carry their SQL; plain statements receive it on execute
+                            String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                            return wrapStatement(statement, sql);
+                        }
+                        return result;
+                    });
+        }
+
+        private Statement wrapStatement(Statement statement, String preparedSql) {
+            return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), jdbcInterfaces(statement),
+                    (proxy, method, args) -> {
+                        if (!method.getName().startsWith("execute")) {
+                            return invoke(statement, method, args);
+                        }
+                        String sql = preparedSql != null ? preparedSql
+                                : args != null && args.length > 0 && args[0] instanceof String s ? s : "<batch>";
+                        long start = System.nanoTime();
+                        try {
+                            return invoke(statement, method, args);
+                        } finally {
+                            monitor.record(sql, System.nanoTime() - start);
+                        }
+                    });
+        }
+
+        private static Class<?>[] jdbcInterfaces(Statement statement) {
+            if (statement instanceof CallableStatement) {
+                return new Class<?>[] {CallableStatement.class};
+            }
+            if (statement instanceof PreparedStatement) {
+                return new Class<?>[] {PreparedStatement.class};
+            }
+            return new Class<?>[] {Statement.class};
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
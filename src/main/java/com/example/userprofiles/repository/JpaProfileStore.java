@@ -0,0 +1,55 @@
+package com.example.userprofiles.repository;
+
+import com.example.userprofiles.dto.UserProfileFilterDTO;
+import com.example.userprofiles.model.UserProfile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "profile.store.engine", havingValue = "jpa", matchIfMissing = true)
+public class JpaProfileStore implements ProfileStore {
+
+    private final UserProfileRepository repository;
+
+    @Override
+    public Optional<UserProfile> findById(Long id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return repository.existsById(id);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return repository.existsByEmail(email);
+    }
+
+    @Override
+    public List<UserProfile> findRange(UserProfileFilterDTO filter, Sort sort, int offset, int limit) {
+        return repository.findRange(UserProfileSpecifications.matching(filter), sort, offset, limit);
+    }
+
+    @Override
+    public UserProfile save(UserProfile profile) {
+        return repository.save(profile);
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        // One lookup plus the delete; existsById followed by deleteById would select the row twice
+        return repository.findById(id)
+                .map(profile -> {
+                    repository.delete(profile);
+                    return true;
+                })
+                .orElse(false);
+    }
+}
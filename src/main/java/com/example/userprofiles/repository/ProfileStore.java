@@ -0,0 +1,31 @@
+package com.example.userprofiles.repository;
+
+import com.example.userprofiles.dto.UserProfileFilterDTO;
+import com.example.userprofiles.model.UserProfile;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The storage operations {@link com.example.userprofiles.service.UserProfileService} depends on.
+ *
+ * The engine is chosen with {@code profile.store.engine}: {@code jpa} (default) or {@code memory}.
+ */
+public interface ProfileStore {
+
+    Optional<UserProfile> findById(Long id);
+
+    boolean existsById(Long id);
+
+    boolean existsByEmail(String email);
+
+    List<UserProfile> findRange(UserProfileFilterDTO filter, Sort sort, int offset, int limit);
+
+    UserProfile save(UserProfile profile);
+
+    /**
+     * @return false if no profile has this id
+     */
+    boolean deleteById(Long id);
+}
@@ -0,0 +1,15 @@
+package com.example.userprofiles.repository;
+
+import com.example.userprofiles.model.UserProfile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface UserProfileQueryRepository {
+
+    /**
+     * Runs a filtered, sorted, offset/limit query without the count query a {@code Page} would need.
+     */
+    List<UserProfile> findRange(Specification<UserProfile> spec, Sort sort, int offset, int limit);
+}
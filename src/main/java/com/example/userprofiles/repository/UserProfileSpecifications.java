@@ -0,0 +1,66 @@
+package com.example.userprofiles.repository;
+
+import com.example.userprofiles.dto.UserProfileFilterDTO;
+import com.example.userprofiles.model.UserProfile;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Translates list filters into criteria predicates.
+ *
+ * Every predicate is sargable against an index declared on {@link UserProfile}:
+ * equality on location, ranges on timestamps, and anchored LIKE prefixes on name and email.
+ */
+public final class UserProfileSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private UserProfileSpecifications() {
+    }
+
+    public static Specification<UserProfile> matching(UserProfileFilterDTO filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getLocation() != null) {
+                predicates.add(cb.equal(root.get("location"), filter.getLocation()));
+            }
+            if (filter.getCreatedAfter() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.getCreatedAfter()));
+            }
+            if (filter.getCreatedBefore() != null) {
+                predicates.add(cb.lessThan(root.get("createdAt"), filter.getCreatedBefore()));
+            }
+            if (filter.getUpdatedAfter() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("updatedAt"), filter.getUpdatedAfter()));
+            }
+            if (filter.getUpdatedBefore() != null) {
+                predicates.add(cb.lessThan(root.get("updatedAt"), filter.getUpdatedBefore()));
+            }
+            if (filter.getNamePrefix() != null && !filter.getNamePrefix().isEmpty()) {
+                predicates.add(startsWith(cb, root.get("name"), filter.getNamePrefix()));
+            }
+            if (filter.getEmailPrefix() != null && !filter.getEmailPrefix().isEmpty()) {
+                // Emails are stored lower-cased
+                predicates.add(startsWith(cb, root.get("email"), filter.getEmailPrefix().toLowerCase().trim()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * An anchored LIKE so the database can turn it into an index range; wrapping the
+     * column in lower() or similar would force a scan.
+     */
+    private static Predicate startsWith(CriteriaBuilder cb, Path<String> path, String prefix) {
+        String escaped = prefix
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return cb.like(path, escaped + "%", LIKE_ESCAPE);
+    }
+}
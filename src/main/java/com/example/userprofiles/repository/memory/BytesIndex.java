@@ -0,0 +1,110 @@
+package com.example.userprofiles.repository.memory;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Open-addressed unique index from byte-encoded keys to column slots.
+ *
+ * The table holds only slot numbers and cached hashes. Keys are read back from the column
+ * through {@code keyOf}, so the index does not store another copy of each key.
+ */
+final class BytesIndex {
+
+    static final int MISSING = -1;
+
+    private static final int EMPTY = 0;
+
+    private final IntFunction<byte[]> keyOf;
+    private int[] slots;  // slot + 1, or EMPTY
+    private int[] hashes;
+    private int mask;
+    private int size;
+
+    BytesIndex(int expectedSize, IntFunction<byte[]> keyOf) {
+        this.keyOf = keyOf;
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        slots = new int[capacity];
+        hashes = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    int find(byte[] key) {
+        int hash = hash(key);
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            int entry = slots[i];
+            if (entry == EMPTY) {
+                return MISSING;
+            }
+            if (hashes[i] == hash && Arrays.equals(keyOf.apply(entry - 1), key)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * Indexes {@code slot}, whose key must already be stored in the column.
+     */
+    void put(int slot) {
+        int hash = hash(keyOf.apply(slot));
+        int i = hash & mask;
+        while (slots[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        slots[i] = slot + 1;
+        hashes[i] = hash;
+        if (++size * 2 > slots.length) {
+            rehash(slots.length << 1);
+        }
+    }
+
+    /**
+     * Removes {@code slot}; call before its key is overwritten in the column.
+     */
+    void remove(int slot) {
+        int hash = hash(keyOf.apply(slot));
+        for (int i = hash & mask; slots[i] != EMPTY; i = (i + 1) & mask) {
+            if (slots[i] == slot + 1) {
+                shiftBack(i);
+                size--;
+                return;
+            }
+        }
+    }
+
+    private void shiftBack(int freed) {
+        int gap = freed;
+        for (int i = (gap + 1) & mask; slots[i] != EMPTY; i = (i + 1) & mask) {
+            int home = hashes[i] & mask;
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                slots[gap] = slots[i];
+                hashes[gap] = hashes[i];
+                gap = i;
+            }
+        }
+        slots[gap] = EMPTY;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldSlots = slots;
+        int[] oldHashes = hashes;
+        slots = new int[capacity];
+        hashes = new int[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] != EMPTY) {
+                int j = oldHashes[i] & mask;
+                while (slots[j] != EMPTY) {
+                    j = (j + 1) & mask;
+                }
+                slots[j] = oldSlots[i];
+                hashes[j] = oldHashes[i];
+            }
+        }
+    }
+
+    private static int hash(byte[] key) {
+        int h = Arrays.hashCode(key) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
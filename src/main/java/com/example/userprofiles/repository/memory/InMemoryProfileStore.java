@@ -0,0 +1,702 @@
+package com.example.userprofiles.repository.memory;
+
+import com.example.userprofiles.dto.UserProfileFilterDTO;
+import com.example.userprofiles.exception.DuplicateEmailException;
+import com.example.userprofiles.model.UserProfile;
+import com.example.userprofiles.repository.ProfileStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Profile store that keeps all rows in memory in a columnar layout.
+ *
+ * Each profile occupies one slot across parallel primitive and {@code byte[]} columns:
+ * strings are kept UTF-8 encoded, locations are interned as int codes, and timestamps are
+ * packed into longs. Ids map to slots through a primitive open-addressed map, and emails
+ * through an open-addressed index over the email column.
+ *
+ * Durability comes from an append-only write log plus a periodic snapshot written through a
+ * memory-mapped file. On startup the snapshot is mapped and decoded, then the log is replayed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "profile.store.engine", havingValue = "memory")
+public class InMemoryProfileStore implements ProfileStore {
+
+    static final String SNAPSHOT_FILE = "profiles.snapshot";
+    static final String LOG_FILE = "profiles.log";
+
+    private static final int SNAPSHOT_MAGIC = 0x55505331; // "UPS1"
+    private static final int SNAPSHOT_HEADER_BYTES = Integer.BYTES * 3 + Long.BYTES * 2;
+
+    private static final byte LOG_PUT = 1;
+    private static final byte LOG_DELETE = 2;
+
+    private static final long NULL_TIME = Long.MIN_VALUE;
+    private static final int NULL_LENGTH = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Path directory;
+    private final long snapshotIntervalSeconds;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object snapshotMonitor = new Object();
+
+    // Columns, indexed by slot. A slot is live when ids[slot] != 0.
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] createdAt = new long[INITIAL_CAPACITY];
+    private long[] updatedAt = new long[INITIAL_CAPACITY];
+    private int[] locations = new int[INITIAL_CAPACITY];
+    private byte[][] names = new byte[INITIAL_CAPACITY][];
+    private byte[][] emails = new byte[INITIAL_CAPACITY][];
+    private byte[][] bios = new byte[INITIAL_CAPACITY][];
+    private byte[][] avatarUrls = new byte[INITIAL_CAPACITY][];
+    private byte[][] phones = new byte[INITIAL_CAPACITY][];
+    private byte[][] websites = new byte[INITIAL_CAPACITY][];
+
+    private int highWater;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private long nextId = 1;
+    private long mutationsSinceSnapshot;
+
+    private final LongIntHashMap idIndex = new LongIntHashMap(INITIAL_CAPACITY);
+    private final BytesIndex emailIndex = new BytesIndex(INITIAL_CAPACITY, slot -> emails[slot]);
+    private final StringDictionary locationDictionary = new StringDictionary();
+
+    private final ProfileWriteLog writeLog;
+    private ScheduledExecutorService snapshotScheduler;
+
+    public InMemoryProfileStore(
+            @Value("${profile.store.memory.directory:${java.io.tmpdir}/user-profiles/store}") String directory,
+            @Value("${profile.store.memory.snapshot-interval-seconds:60}") long snapshotIntervalSeconds,
+            @Value("${profile.store.memory.sync-writes:false}") boolean syncWrites) {
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+        this.writeLog = new ProfileWriteLog(this.directory.resolve(LOG_FILE), syncWrites);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        int loaded = loadSnapshot();
+        int replayed = writeLog.replayAndOpen(this::applyLogEntry);
+        mutationsSinceSnapshot = replayed;
+        log.info("Loaded {} profiles from snapshot and replayed {} log entries in {} ms",
+                loaded, replayed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        if (snapshotIntervalSeconds > 0) {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "profile-store-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshotScheduler.scheduleWithFixedDelay(this::snapshotQuietly,
+                    snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdown();
+        }
+        snapshot();
+        writeLog.close();
+    }
+
+    @Override
+    public Optional<UserProfile> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            int slot = idIndex.get(id);
+            return slot == LongIntHashMap.MISSING ? Optional.empty() : Optional.of(toProfile(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        lock.readLock().lock();
+        try {
+            return idIndex.get(id) != LongIntHashMap.MISSING;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        if (email == null) {
+            return false;
+        }
+        byte[] key = encode(email);
+        lock.readLock().lock();
+        try {
+            return emailIndex.find(key) != BytesIndex.MISSING;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<UserProfile> findRange(UserProfileFilterDTO filter, Sort sort, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            int[] matches = matchingSlots(filter);
+            int[] ordered = firstInOrder(matches, (int) Math.min(matches.length, (long) offset + limit), order(sort));
+
+            List<UserProfile> result = new ArrayList<>(Math.max(0, ordered.length - offset));
+            for (int i = offset; i < ordered.length; i++) {
+                result.add(toProfile(ordered[i]));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public UserProfile save(UserProfile profile) {
+        lock.writeLock().lock();
+        try {
+            byte[] email = encode(profile.getEmail());
+            int slot = profile.getId() == null ? LongIntHashMap.MISSING : idIndex.get(profile.getId());
+            int owner = email == null ? BytesIndex.MISSING : emailIndex.find(email);
+            if (owner != BytesIndex.MISSING && owner != slot) {
+                throw new DuplicateEmailException(profile.getEmail());
+            }
+
+            long now = encodeTime(LocalDateTime.now());
+            long id;
+            long created;
+            if (slot == LongIntHashMap.MISSING) {
+                id = profile.getId() != null ? profile.getId() : nextId;
+                created = profile.getCreatedAt() != null ? encodeTime(profile.getCreatedAt()) : now;
+            } else {
+                id = ids[slot];
+                created = createdAt[slot];
+            }
+            byte[][] columns = {encode(profile.getName()), email, encode(profile.getBio()),
+                    encode(profile.getAvatarUrl()), encode(profile.getPhone()), encode(profile.getLocation()),
+                    encode(profile.getWebsite())};
+
+            // Log first: if the append fails, memory still matches what a restart would replay
+            ByteBuffer record = encodeRecord(id, created, now, columns);
+            appendToLog(LOG_PUT, record);
+            applyRecord(record.rewind());
+
+            profile.setId(id);
+            profile.setCreatedAt(decodeTime(created));
+            profile.setUpdatedAt(decodeTime(now));
+            return profile;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (idIndex.get(id) == LongIntHashMap.MISSING) {
+                return false;
+            }
+            appendToLog(LOG_DELETE, ByteBuffer.allocate(Long.BYTES).putLong(0, id));
+            return removeSlot(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes all live rows to a new snapshot and empties the write log. Readers are not blocked;
+     * writers wait until the snapshot is durable so the log cannot miss an entry.
+     */
+    public void snapshot() throws IOException {
+        synchronized (snapshotMonitor) {
+            lock.readLock().lock();
+            try {
+                if (mutationsSinceSnapshot == 0 && Files.exists(directory.resolve(SNAPSHOT_FILE))) {
+                    return;
+                }
+                writeSnapshot();
+                writeLog.reset();
+                mutationsSinceSnapshot = 0;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.error("Profile store snapshot failed; the write log still holds all changes", e);
+        }
+    }
+
+    // --- Filtering and sorting ---
+
+    private int[] matchingSlots(UserProfileFilterDTO filter) {
+        int locationCode = StringDictionary.NULL_CODE;
+        if (filter.getLocation() != null) {
+            locationCode = locationDictionary.lookup(filter.getLocation());
+            if (locationCode < 0) {
+                return new int[0];
+            }
+        }
+        long createdFrom = filter.getCreatedAfter() == null ? NULL_TIME : encodeTime(filter.getCreatedAfter());
+        long createdTo = filter.getCreatedBefore() == null ? NULL_TIME : encodeTime(filter.getCreatedBefore());
+        long updatedFrom = filter.getUpdatedAfter() == null ? NULL_TIME : encodeTime(filter.getUpdatedAfter());
+        long updatedTo = filter.getUpdatedBefore() == null ? NULL_TIME : encodeTime(filter.getUpdatedBefore());
+        byte[] namePrefix = isEmpty(filter.getNamePrefix()) ? null : encode(filter.getNamePrefix());
+        byte[] emailPrefix = isEmpty(filter.getEmailPrefix()) ? null : encode(filter.getEmailPrefix().toLowerCase().trim());
+
+        int[] matches = new int[idIndex.size()];
+        int count = 0;
+        for (int slot = 0; slot < highWater; slot++) {
+            if (ids[slot] == 0
+                    || (filter.getLocation() != null && locations[slot] != locationCode)
+                    || !inRange(createdAt[slot], createdFrom, createdTo)
+                    || !inRange(updatedAt[slot], updatedFrom, updatedTo)
+                    || (namePrefix != null && !startsWith(names[slot], namePrefix))
+                    || (emailPrefix != null && !startsWith(emails[slot], emailPrefix))) {
+                continue;
+            }
+            matches[count++] = slot;
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * Orders slots without boxing them. Ties always fall back to the id, so the order is total.
+     */
+    @FunctionalInterface
+    private interface SlotOrder {
+        int compare(int a, int b);
+    }
+
+    private SlotOrder order(Sort sort) {
+        SlotOrder result = (a, b) -> Long.compare(ids[a], ids[b]);
+        List<Sort.Order> orders = sort.toList();
+        for (int i = orders.size() - 1; i >= 0; i--) {
+            Sort.Order order = orders.get(i);
+            SlotOrder key = switch (order.getProperty()) {
+                case "id" -> (a, b) -> Long.compare(ids[a], ids[b]);
+                case "name" -> (a, b) -> Arrays.compareUnsigned(names[a], names[b]);
+                case "email" -> (a, b) -> Arrays.compareUnsigned(emails[a], emails[b]);
+                case "location" -> (a, b) -> compareNullsFirst(
+                        locationDictionary.decode(locations[a]), locationDictionary.decode(locations[b]));
+                case "createdAt" -> (a, b) -> Long.compare(createdAt[a], createdAt[b]);
+                case "updatedAt" -> (a, b) -> Long.compare(updatedAt[a], updatedAt[b]);
+                default -> throw new IllegalArgumentException("Unsupported sort key: " + order.getProperty());
+            };
+            // Nulls sort first ascending and last descending, matching the H2 default
+            SlotOrder directed = order.isDescending() ? (a, b) -> key.compare(b, a) : key;
+            SlotOrder next = result;
+            result = (a, b) -> {
+                int c = directed.compare(a, b);
+                return c != 0 ? c : next.compare(a, b);
+            };
+        }
+        return result;
+    }
+
+    /**
+     * Returns the first {@code count} slots in order. A bounded max-heap keeps the current best
+     * {@code count}, so a page near the start costs O(n log count) instead of a full sort.
+     */
+    private static int[] firstInOrder(int[] slots, int count, SlotOrder order) {
+        int[] heap = new int[count];
+        if (count == 0) {
+            return heap;
+        }
+        int size = 0;
+        for (int slot : slots) {
+            if (size < count) {
+                heap[size] = slot;
+                siftUp(heap, size++, order);
+            } else if (order.compare(slot, heap[0]) < 0) {
+                heap[0] = slot;
+                siftDown(heap, 0, count, order);
+            }
+        }
+        // Heapsort in place: repeatedly move the largest remaining slot to the end
+        for (int end = count - 1; end > 0; end--) {
+            int largest = heap[0];
+            heap[0] = heap[end];
+            heap[end] = largest;
+            siftDown(heap, 0, end, order);
+        }
+        return heap;
+    }
+
+    private static void siftUp(int[] heap, int index, SlotOrder order) {
+        int slot = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (order.compare(slot, heap[parent]) <= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = slot;
+    }
+
+    private static void siftDown(int[] heap, int index, int size, SlotOrder order) {
+        int slot = heap[index];
+        while (true) {
+            int child = index * 2 + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && order.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (order.compare(heap[child], slot) <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = slot;
+    }
+
+    private static int compareNullsFirst(String a, String b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        return a.compareTo(b);
+    }
+
+    private static boolean inRange(long value, long from, long to) {
+        if (from == NULL_TIME && to == NULL_TIME) {
+            return true;
+        }
+        return value != NULL_TIME
+                && (from == NULL_TIME || value >= from)
+                && (to == NULL_TIME || value < to);
+    }
+
+    private static boolean startsWith(byte[] value, byte[] prefix) {
+        return value != null
+                && value.length >= prefix.length
+                && Arrays.equals(value, 0, prefix.length, prefix, 0, prefix.length);
+    }
+
+    // --- Slot management ---
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (highWater == ids.length) {
+            grow(ids.length * 2);
+        }
+        return highWater++;
+    }
+
+    private boolean removeSlot(long id) {
+        int slot = idIndex.remove(id);
+        if (slot == LongIntHashMap.MISSING) {
+            return false;
+        }
+        if (emails[slot] != null) {
+            emailIndex.remove(slot);
+        }
+        ids[slot] = 0;
+        clearColumns(slot);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        return true;
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        updatedAt = Arrays.copyOf(updatedAt, capacity);
+        locations = Arrays.copyOf(locations, capacity);
+        names = Arrays.copyOf(names, capacity);
+        emails = Arrays.copyOf(emails, capacity);
+        bios = Arrays.copyOf(bios, capacity);
+        avatarUrls = Arrays.copyOf(avatarUrls, capacity);
+        phones = Arrays.copyOf(phones, capacity);
+        websites = Arrays.copyOf(websites, capacity);
+    }
+
+    private void clearColumns(int slot) {
+        names[slot] = null;
+        emails[slot] = null;
+        bios[slot] = null;
+        avatarUrls[slot] = null;
+        phones[slot] = null;
+        locations[slot] = StringDictionary.NULL_CODE;
+        websites[slot] = null;
+    }
+
+    private UserProfile toProfile(int slot) {
+        UserProfile profile = new UserProfile();
+        profile.setId(ids[slot]);
+        profile.setName(decode(names[slot]));
+        profile.setEmail(decode(emails[slot]));
+        profile.setBio(decode(bios[slot]));
+        profile.setAvatarUrl(decode(avatarUrls[slot]));
+        profile.setPhone(decode(phones[slot]));
+        profile.setLocation(locationDictionary.decode(locations[slot]));
+        profile.setWebsite(decode(websites[slot]));
+        profile.setCreatedAt(decodeTime(createdAt[slot]));
+        profile.setUpdatedAt(decodeTime(updatedAt[slot]));
+        return profile;
+    }
+
+    // --- Persistence ---
+
+    private void appendToLog(byte type, ByteBuffer body) {
+        try {
+            writeLog.append(type, body);
+            mutationsSinceSnapshot++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to profile write log", e);
+        }
+    }
+
+    /**
+     * Record layout: {@code id, createdAt, updatedAt} as longs, then name, email, bio, avatarUrl,
+     * phone, location and website as length-prefixed UTF-8 ({@code -1} for null).
+     */
+    private static ByteBuffer encodeRecord(long id, long created, long updated, byte[][] columns) {
+        ByteBuffer buffer = ByteBuffer.allocate(recordSize(columns));
+        writeRecord(buffer, id, created, updated, columns);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * The variable-length columns of a slot, in record order.
+     */
+    private byte[][] columns(int slot) {
+        return new byte[][] {names[slot], emails[slot], bios[slot], avatarUrls[slot], phones[slot],
+                encode(locationDictionary.decode(locations[slot])), websites[slot]};
+    }
+
+    private static int recordSize(byte[][] columns) {
+        int size = Long.BYTES * 3 + Integer.BYTES * columns.length;
+        for (byte[] column : columns) {
+            size += length(column);
+        }
+        return size;
+    }
+
+    private static void writeRecord(ByteBuffer buffer, long id, long created, long updated, byte[][] columns) {
+        buffer.putLong(id).putLong(created).putLong(updated);
+        for (byte[] column : columns) {
+            putBytes(buffer, column);
+        }
+    }
+
+    private void applyRecord(ByteBuffer buffer) {
+        long id = buffer.getLong();
+        long created = buffer.getLong();
+        long updated = buffer.getLong();
+        byte[] name = getBytes(buffer);
+        byte[] email = getBytes(buffer);
+        byte[] bio = getBytes(buffer);
+        byte[] avatarUrl = getBytes(buffer);
+        byte[] phone = getBytes(buffer);
+        byte[] location = getBytes(buffer);
+        byte[] website = getBytes(buffer);
+
+        removeSlot(id);
+        int slot = allocateSlot();
+        ids[slot] = id;
+        createdAt[slot] = created;
+        updatedAt[slot] = updated;
+        names[slot] = name;
+        emails[slot] = email;
+        bios[slot] = bio;
+        avatarUrls[slot] = avatarUrl;
+        phones[slot] = phone;
+        locations[slot] = locationDictionary.encode(decode(location));
+        websites[slot] = website;
+        idIndex.put(id, slot);
+        if (email != null) {
+            emailIndex.put(slot);
+        }
+        nextId = Math.max(nextId, id + 1);
+    }
+
+    private void applyLogEntry(byte type, ByteBuffer body) {
+        if (type == LOG_PUT) {
+            applyRecord(body);
+        } else if (type == LOG_DELETE) {
+            removeSlot(body.getLong());
+        } else {
+            throw new IllegalStateException("Unknown profile log entry type: " + type);
+        }
+    }
+
+    /**
+     * Snapshot layout: {@code [int magic][int count][long nextId][long crc32][int reserved]}
+     * followed by {@code [int length][record]} for every live row.
+     */
+    private void writeSnapshot() throws IOException {
+        long size = SNAPSHOT_HEADER_BYTES;
+        for (int slot = 0; slot < highWater; slot++) {
+            if (ids[slot] != 0) {
+                size += Integer.BYTES + recordSize(columns(slot));
+            }
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot of " + size + " bytes exceeds a single mapping");
+        }
+
+        Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.position(SNAPSHOT_HEADER_BYTES);
+            int count = 0;
+            for (int slot = 0; slot < highWater; slot++) {
+                if (ids[slot] != 0) {
+                    byte[][] columns = columns(slot);
+                    buffer.putInt(recordSize(columns));
+                    writeRecord(buffer, ids[slot], createdAt[slot], updatedAt[slot], columns);
+                    count++;
+                }
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(SNAPSHOT_HEADER_BYTES, (int) size - SNAPSHOT_HEADER_BYTES));
+            buffer.putInt(0, SNAPSHOT_MAGIC)
+                    .putInt(Integer.BYTES, count)
+                    .putLong(Integer.BYTES * 2, nextId)
+                    .putLong(Integer.BYTES * 2 + Long.BYTES, crc.getValue());
+            buffer.force();
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT_FILE),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        // The rename must be durable before the caller truncates the log, or a power loss could
+        // bring back the old snapshot with an empty log
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        }
+    }
+
+    private int loadSnapshot() throws IOException {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (size < SNAPSHOT_HEADER_BYTES || buffer.getInt(0) != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a profile snapshot: " + file);
+            }
+            int count = buffer.getInt(Integer.BYTES);
+            long storedNextId = buffer.getLong(Integer.BYTES * 2);
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(SNAPSHOT_HEADER_BYTES, (int) size - SNAPSHOT_HEADER_BYTES));
+            if (crc.getValue() != buffer.getLong(Integer.BYTES * 2 + Long.BYTES)) {
+                throw new IOException("Profile snapshot checksum mismatch: " + file);
+            }
+
+            int capacity = Integer.highestOneBit(Math.max(INITIAL_CAPACITY, count) - 1) << 1;
+            if (capacity > ids.length) {
+                grow(capacity);
+            }
+            buffer.position(SNAPSHOT_HEADER_BYTES);
+            for (int i = 0; i < count; i++) {
+                int length = buffer.getInt();
+                applyRecord(buffer.slice(buffer.position(), length));
+                buffer.position(buffer.position() + length);
+            }
+            nextId = Math.max(nextId, storedNextId);
+            return count;
+        }
+    }
+
+    // --- Encoding helpers ---
+
+    private static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String decode(byte[] value) {
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static long encodeTime(LocalDateTime time) {
+        if (time == null) {
+            return NULL_TIME;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    private static LocalDateTime decodeTime(long value) {
+        if (value == NULL_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(value, 1_000_000_000L),
+                (int) Math.floorMod(value, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    private static int length(byte[] value) {
+        return value == null ? 0 : value.length;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(NULL_LENGTH);
+        } else {
+            buffer.putInt(value.length).put(value);
+        }
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return value;
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.userprofiles.repository.memory;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Switches off the DataSource, JPA and H2 console auto-configuration when
+ * {@code profile.store.engine=memory}, so the memory engine does not open an unused H2 pool.
+ *
+ * Without a transaction manager, {@code @Transactional} is not applied; each store write
+ * is already atomic under {@link InMemoryProfileStore}'s write lock.
+ */
+public class MemoryEngineEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    private static final String EXCLUDE_PROPERTY = "spring.autoconfigure.exclude";
+
+    private static final List<String> JPA_AUTO_CONFIGURATIONS = List.of(
+            "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+            "org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration",
+            "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration",
+            "org.springframework.boot.autoconfigure.h2.H2ConsoleAutoConfiguration");
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!"memory".equals(environment.getProperty("profile.store.engine"))) {
+            return;
+        }
+        // Keep any exclusions configured elsewhere
+        Set<String> excludes = new LinkedHashSet<>(Binder.get(environment)
+                .bind(EXCLUDE_PROPERTY, Bindable.listOf(String.class))
+                .orElse(List.of()));
+        excludes.addAll(JPA_AUTO_CONFIGURATIONS);
+        environment.getPropertySources().addFirst(new MapPropertySource("profileStoreEngine",
+                Map.of(EXCLUDE_PROPERTY, String.join(",", excludes))));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.userprofiles.repository.memory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of store mutations since the last snapshot.
+ *
+ * Entry layout: {@code [byte type][int length][body][int crc32(type, body)]}. A torn or corrupt
+ * tail (from a crash mid-append) ends replay and is truncated away.
+ */
+final class ProfileWriteLog implements AutoCloseable {
+
+    private static final int HEADER_BYTES = Byte.BYTES + Integer.BYTES;
+    private static final int TRAILER_BYTES = Integer.BYTES;
+
+    private final Path file;
+    private final boolean syncWrites;
+    private FileChannel channel;
+
+    ProfileWriteLog(Path file, boolean syncWrites) {
+        this.file = file;
+        this.syncWrites = syncWrites;
+    }
+
+    /**
+     * Feeds every intact entry to {@code consumer}, drops any torn tail, then opens the log for appending.
+     *
+     * @return the number of entries replayed
+     */
+    int replayAndOpen(BiConsumer<Byte, ByteBuffer> consumer) throws IOException {
+        int replayed = 0;
+        if (Files.exists(file)) {
+            long validLength = 0;
+            try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = in.size();
+                if (size > 0) {
+                    MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                    while (buffer.remaining() >= HEADER_BYTES + TRAILER_BYTES) {
+                        byte type = buffer.get();
+                        int length = buffer.getInt();
+                        if (length < 0 || buffer.remaining() < length + TRAILER_BYTES) {
+                            break;
+                        }
+                        ByteBuffer body = buffer.slice(buffer.position(), length);
+                        buffer.position(buffer.position() + length);
+                        if (buffer.getInt() != checksum(type, body.duplicate())) {
+                            break;
+                        }
+                        consumer.accept(type, body);
+                        replayed++;
+                        validLength = buffer.position();
+                    }
+                }
+            }
+            try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                if (out.size() > validLength) {
+                    out.truncate(validLength);
+                }
+            }
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return replayed;
+    }
+
+    void append(byte type, ByteBuffer body) throws IOException {
+        int length = body.remaining();
+        ByteBuffer entry = ByteBuffer.allocate(HEADER_BYTES + length + TRAILER_BYTES);
+        entry.put(type).putInt(length).put(body.duplicate()).putInt(checksum(type, body.duplicate()));
+        entry.flip();
+        while (entry.hasRemaining()) {
+            channel.write(entry);
+        }
+        if (syncWrites) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Discards all entries; called once a snapshot covering them is durable.
+     */
+    void reset() throws IOException {
+        channel.truncate(0);
+        channel.force(true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.force(true);
+            channel.close();
+        }
+    }
+
+    private static int checksum(byte type, ByteBuffer body) {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.userprofiles.repository.memory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns low-cardinality strings (such as locations) as int codes. Code {@code -1} means null.
+ * Codes are never reclaimed; the dictionary is rebuilt on restart from live rows only.
+ */
+final class StringDictionary {
+
+    static final int NULL_CODE = -1;
+
+    private final List<String> values = new ArrayList<>();
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        return codes.computeIfAbsent(value, v -> {
+            values.add(v);
+            return values.size() - 1;
+        });
+    }
+
+    /**
+     * Returns the code for an existing value without adding it, or {@code -2} if unknown.
+     */
+    int lookup(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        return codes.getOrDefault(value, -2);
+    }
+
+    String decode(int code) {
+        return code == NULL_CODE ? null : values.get(code);
+    }
+}
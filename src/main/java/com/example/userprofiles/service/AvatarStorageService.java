@@ -0,0 +1,238 @@
+package com.example.userprofiles.service;
+
+import com.example.userprofiles.exception.AvatarTooLargeException;
+import com.example.userprofiles.exception.InvalidProfileException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed avatar store on the local filesystem.
+ *
+ * Uploads are streamed to a temp file while their SHA-256 is computed, then moved to
+ * {@code <root>/<first two hex chars>/<hash>.<ext>}. Identical uploads share one file.
+ * A fixed-size PNG thumbnail is generated once, next to the original.
+ */
+@Service
+public class AvatarStorageService {
+
+    public static final int THUMBNAIL_SIZE = 128;
+
+    private static final int MAX_DIMENSION = 4096;
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "png", "png",
+            "jpeg", "jpg",
+            "gif", "gif");
+
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "png", "image/png",
+            "jpg", "image/jpeg",
+            "gif", "image/gif");
+
+    private static final Pattern FILENAME = Pattern.compile("^([0-9a-f]{64})(_" + THUMBNAIL_SIZE + ")?\\.(png|jpg|gif)$");
+
+    private final Path root;
+    private final long maxSizeBytes;
+
+    public AvatarStorageService(
+            @Value("${avatar.storage.root:${java.io.tmpdir}/user-profiles/avatars}") String root,
+            @Value("${avatar.storage.max-size-bytes:5242880}") long maxSizeBytes) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    /**
+     * Stores an uploaded image and its thumbnail.
+     *
+     * @return the file name of the stored original, e.g. {@code <hash>.png}
+     */
+    public String store(InputStream content) {
+        Path temp = null;
+        try {
+            Files.createDirectories(root);
+            temp = Files.createTempFile(root, "upload-", ".tmp");
+            String hash = copyAndHash(content, temp);
+            String extension = inspectImage(temp);
+
+            String filename = hash + "." + extension;
+            Path target = pathFor(filename);
+            Files.createDirectories(target.getParent());
+            if (Files.exists(target)) {
+                Files.delete(temp);
+            } else {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            temp = null;
+
+            Path thumbnail = pathFor(thumbnailName(hash));
+            if (!Files.exists(thumbnail)) {
+                writeThumbnail(target, thumbnail);
+            }
+            return filename;
+        } catch (IIOException e) {
+            throw new InvalidProfileException("Avatar image could not be decoded");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store avatar", e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * Resolves a stored file name (original or thumbnail) to its path, if it exists.
+     */
+    public Optional<Path> resolve(String filename) {
+        if (!FILENAME.matcher(filename).matches()) {
+            return Optional.empty();
+        }
+        Path path = pathFor(filename);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    public String contentType(String filename) {
+        return CONTENT_TYPES.get(filename.substring(filename.lastIndexOf('.') + 1));
+    }
+
+    public static String thumbnailName(String hash) {
+        return hash + "_" + THUMBNAIL_SIZE + ".png";
+    }
+
+    private Path pathFor(String filename) {
+        return root.resolve(filename.substring(0, 2)).resolve(filename);
+    }
+
+    private String copyAndHash(InputStream content, Path temp) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                total += read;
+                if (total > maxSizeBytes) {
+                    throw new AvatarTooLargeException(maxSizeBytes);
+                }
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+        }
+        if (total == 0) {
+            throw new InvalidProfileException("Avatar file is empty");
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Checks the format and dimensions from the image header without decoding pixels.
+     */
+    private String inspectImage(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            ImageReader reader = firstReader(input);
+            try {
+                reader.setInput(input, true, true);
+                String extension = EXTENSIONS.get(reader.getFormatName().toLowerCase());
+                if (extension == null) {
+                    throw new InvalidProfileException("Avatar must be a PNG, JPEG or GIF image");
+                }
+                if (reader.getWidth(0) > MAX_DIMENSION || reader.getHeight(0) > MAX_DIMENSION) {
+                    throw new InvalidProfileException("Avatar must be at most " + MAX_DIMENSION + "x" + MAX_DIMENSION + " pixels");
+                }
+                return extension;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void writeThumbnail(Path original, Path thumbnail) throws IOException {
+        BufferedImage source;
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            ImageReader reader = firstReader(input);
+            try {
+                reader.setInput(input, true, true);
+                // Subsample while decoding so large originals never fully materialize in heap
+                int shortSide = Math.min(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, shortSide / (THUMBNAIL_SIZE * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                source = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        // Center-crop to a square, then scale to the thumbnail size
+        int side = Math.min(source.getWidth(), source.getHeight());
+        int x = (source.getWidth() - side) / 2;
+        int y = (source.getHeight() - side) / 2;
+        BufferedImage scaled = new BufferedImage(THUMBNAIL_SIZE, THUMBNAIL_SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(source, 0, 0, THUMBNAIL_SIZE, THUMBNAIL_SIZE, x, y, x + side, y + side, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        Path temp = Files.createTempFile(root, "thumb-", ".tmp");
+        try {
+            ImageIO.write(scaled, "png", temp.toFile());
+            Files.move(temp, thumbnail, StandardCopyOption.ATOMIC_MOVE);
+            temp = null;
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    private ImageReader firstReader(ImageInputStream input) {
+        Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+        if (readers == null || !readers.hasNext()) {
+            throw new InvalidProfileException("Avatar must be a PNG, JPEG or GIF image");
+        }
+        return readers.next();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Leftover temp files are harmless
+        }
+    }
+}
@@ -1,43 +1,58 @@
 package com.example.userprofiles.service;
 
 import com.example.userprofiles.dto.UserProfileCreateDTO;
+import com.example.userprofiles.dto.UserProfileFilterDTO;
 import com.example.userprofiles.dto.UserProfileResponseDTO;
 import com.example.userprofiles.dto.UserProfileUpdateDTO;
+import com.example.userprofiles.exception.DuplicateEmailException;
+import com.example.userprofiles.exception.InvalidProfileException;
+import com.example.userprofiles.exception.InvalidQueryException;
+import com.example.userprofiles.exception.ProfileNotFoundException;
 import com.example.userprofiles.model.UserProfile;
-import com.example.userprofiles.repository.UserProfileRepository;
+import com.example.userprofiles.repository.ProfileStore;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UserProfileService {
 
-    private final UserProfileRepository repository;
+    private static final Set<String> SORT_KEYS = new LinkedHashSet<>(
+            List.of("id", "name", "email", "location", "createdAt", "updatedAt"));
 
-    public List<UserProfileResponseDTO> getAllProfiles(int skip, int limit) {
-        return repository.findAll()
+    private final ProfileStore repository;
+
+    public List<UserProfileResponseDTO> getAllProfiles(UserProfileFilterDTO filter, String sort, int skip, int limit) {
+        if (skip < 0 || limit < 0) {
+            throw new InvalidQueryException("skip and limit must not be negative");
+        }
+        return repository.findRange(filter, parseSort(sort), skip, limit)
                 .stream()
-                .skip(skip)
-                .limit(limit)
                 .map(this::toResponseDTO)
                 .collect(Collectors.toList());
     }
 
-    public UserProfileResponseDTO getProfileById(Long id) {
-        UserProfile profile = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Profile not found with id: " + id));
-        return toResponseDTO(profile);
+    /**
+     * A missing id is routine on reads, so it is returned as an empty result rather than thrown.
+     */
+    public Optional<UserProfileResponseDTO> getProfileById(Long id) {
+        return repository.findById(id).map(this::toResponseDTO);
     }
 
     @Transactional
     public UserProfileResponseDTO createProfile(UserProfileCreateDTO createDTO) {
         // Check if email already exists
         if (repository.existsByEmail(createDTO.getEmail())) {
-            throw new RuntimeException("Email already exists: " + createDTO.getEmail());
+            throw new DuplicateEmailException(createDTO.getEmail());
         }
 
         // Validate phone number format
@@ -51,12 +66,12 @@ public class UserProfileService {
     @Transactional
     public UserProfileResponseDTO updateProfile(Long id, UserProfileUpdateDTO updateDTO) {
         UserProfile profile = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Profile not found with id: " + id));
+                .orElseThrow(() -> new ProfileNotFoundException(id));
 
         // Check if email is being changed and if it already exists
         if (updateDTO.getEmail() != null && !updateDTO.getEmail().equals(profile.getEmail())) {
             if (repository.existsByEmail(updateDTO.getEmail())) {
-                throw new RuntimeException("Email already exists: " + updateDTO.getEmail());
+                throw new DuplicateEmailException(updateDTO.getEmail());
             }
         }
 
@@ -69,7 +84,6 @@ public class UserProfileService {
         if (updateDTO.getName() != null) profile.setName(updateDTO.getName());
         if (updateDTO.getEmail() != null) profile.setEmail(updateDTO.getEmail());
         if (updateDTO.getBio() != null) profile.setBio(updateDTO.getBio());
-        if (updateDTO.getAvatarUrl() != null) profile.setAvatarUrl(updateDTO.getAvatarUrl());
         if (updateDTO.getPhone() != null) profile.setPhone(updateDTO.getPhone());
         if (updateDTO.getLocation() != null) profile.setLocation(updateDTO.getLocation());
         if (updateDTO.getWebsite() != null) profile.setWebsite(updateDTO.getWebsite());
@@ -80,17 +94,66 @@ public class UserProfileService {
 
     @Transactional
     public void deleteProfile(Long id) {
+        if (!repository.deleteById(id)) {
+            throw new ProfileNotFoundException(id);
+        }
+    }
+
+    /**
+     * Fails fast for a missing profile, before expensive work such as storing an upload.
+     */
+    public void requireProfileExists(Long id) {
         if (!repository.existsById(id)) {
-            throw new RuntimeException("Profile not found with id: " + id);
+            throw new ProfileNotFoundException(id);
+        }
+    }
+
+    /**
+     * Points the profile at an already stored avatar. The entity is reloaded inside the
+     * transaction so concurrent updates made while the upload was processed are kept.
+     */
+    @Transactional
+    public UserProfileResponseDTO updateAvatarUrl(Long id, String avatarUrl) {
+        UserProfile profile = repository.findById(id)
+                .orElseThrow(() -> new ProfileNotFoundException(id));
+        profile.setAvatarUrl(avatarUrl);
+
+        UserProfile updatedProfile = repository.save(profile);
+        return toResponseDTO(updatedProfile);
+    }
+
+    /**
+     * Parses a comma-separated list of sort keys, each optionally prefixed with '-' for descending.
+     * The id is always appended as a tie-breaker so offset paging is stable.
+     */
+    private Sort parseSort(String sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        boolean hasId = false;
+        if (sort != null && !sort.isBlank()) {
+            for (String token : sort.split(",")) {
+                String key = token.trim();
+                boolean descending = key.startsWith("-");
+                if (descending) {
+                    key = key.substring(1);
+                }
+                if (!SORT_KEYS.contains(key)) {
+                    throw new InvalidQueryException("Unsupported sort key: " + key + ", expected one of " + SORT_KEYS);
+                }
+                hasId |= key.equals("id");
+                orders.add(descending ? Sort.Order.desc(key) : Sort.Order.asc(key));
+            }
+        }
+        if (!hasId) {
+            orders.add(Sort.Order.asc("id"));
         }
-        repository.deleteById(id);
+        return Sort.by(orders);
     }
 
     private void validatePhoneNumber(String phone) {
         if (phone != null && !phone.isEmpty()) {
             String digitsOnly = phone.replaceAll("\\D", "");
             if (digitsOnly.length() < 10 || digitsOnly.length() > 15) {
-                throw new RuntimeException("Phone number must be between 10 and 15 digits");
+                throw new InvalidProfileException("Phone number must be between 10 and 15 digits");
             }
         }
     }
@@ -100,7 +163,6 @@ public class UserProfileService {
         profile.setName(dto.getName());
         profile.setEmail(dto.getEmail().toLowerCase().trim());
         profile.setBio(dto.getBio());
-        profile.setAvatarUrl(dto.getAvatarUrl());
         profile.setPhone(dto.getPhone());
         profile.setLocation(dto.getLocation());
         profile.setWebsite(dto.getWebsite());
@@ -0,0 +1,259 @@
+package com.example.userprofiles;
+
+import com.example.userprofiles.dto.UserProfileCreateDTO;
+import com.example.userprofiles.dto.UserProfileResponseDTO;
+import com.example.userprofiles.exception.ProfileNotFoundException;
+import com.example.userprofiles.model.UserProfile;
+import com.example.userprofiles.repository.ProfileStore;
+import com.example.userprofiles.repository.UserProfileRepository;
+import com.example.userprofiles.service.UserProfileService;
+import jakarta.validation.Valid;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Throughput of the 404/409 error paths. Excluded from {@code test}; run with {@code ./gradlew benchmark}.
+ *
+ * The "before" numbers replay the old approach: {@link LegacyProfileController} and
+ * {@link LegacyProfileService} reproduce the original controller and service, which threw
+ * stack-capturing RuntimeExceptions and caught them in the controller. Both sides run on the same
+ * service, DTO mapping and {@link ProfileStore}, measured through MockMvc against the same database,
+ * so the 200 control row should be flat and the error rows show only the error handling.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import({ErrorPathBenchmark.LegacyProfileController.class, ErrorPathBenchmark.LegacyProfileService.class})
+@Tag("benchmark")
+class ErrorPathBenchmark {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 200_000;
+    private static final int REQUESTS = 5_000;
+    private static final int ROUNDS = 3;
+    private static final int CALL_DEPTH = 80; // Roughly a Spring MVC request stack
+
+    private static final String DUPLICATE_BODY = "{\"name\":\"Jane Doe\",\"email\":\"john@example.com\"}";
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private UserProfileRepository repository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        repository.deleteAll();
+    }
+
+    @Test
+    void exceptionConstruction() {
+        long before = measure(id -> {
+            try {
+                throwAt(CALL_DEPTH, () -> new RuntimeException("Profile not found with id: " + id));
+            } catch (RuntimeException e) {
+                return e.getMessage().contains("not found") ? 404 : 400;
+            }
+            return 200;
+        });
+        long after = measure(id -> {
+            try {
+                throwAt(CALL_DEPTH, () -> new ProfileNotFoundException(id));
+            } catch (ProfileNotFoundException e) {
+                return 404;
+            }
+            return 200;
+        });
+        report("not-found exception (RuntimeException + message match)", before);
+        report("not-found exception (ProfileNotFoundException)", after);
+    }
+
+    @Test
+    void notFoundRequests() throws Exception {
+        compare("GET /profiles/{missing} -> 404",
+                i -> get("/benchmark/legacy/profiles/" + (1_000_000 + i)), status().isNotFound(),
+                i -> get("/api/profiles/" + (1_000_000 + i)), status().isNotFound());
+    }
+
+    /**
+     * Control: the same two endpoints on the success path, to separate per-endpoint overhead
+     * from the cost of the error handling itself.
+     */
+    @Test
+    void foundRequests() throws Exception {
+        UserProfile profile = new UserProfile();
+        profile.setName("John Doe");
+        profile.setEmail("john@example.com");
+        Long id = repository.save(profile).getId();
+
+        compare("GET /profiles/{existing} -> 200 (control)",
+                i -> get("/benchmark/legacy/profiles/" + id), status().isOk(),
+                i -> get("/api/profiles/" + id), status().isOk());
+    }
+
+    @Test
+    void duplicateEmailRequests() throws Exception {
+        UserProfile profile = new UserProfile();
+        profile.setName("John Doe");
+        profile.setEmail("john@example.com");
+        repository.save(profile);
+
+        // The old code answered duplicates with 400; the new code answers 409
+        compare("POST /profiles (duplicate email) -> 409",
+                i -> post("/benchmark/legacy/profiles").contentType(MediaType.APPLICATION_JSON).content(DUPLICATE_BODY),
+                status().isBadRequest(),
+                i -> post("/api/profiles").contentType(MediaType.APPLICATION_JSON).content(DUPLICATE_BODY),
+                status().isConflict());
+    }
+
+    /**
+     * Warms up both paths, then alternates measured rounds and reports the best round of each.
+     */
+    private void compare(String name,
+                         IntFunction<RequestBuilder> before, ResultMatcher beforeStatus,
+                         IntFunction<RequestBuilder> after, ResultMatcher afterStatus) throws Exception {
+        run(before, beforeStatus, REQUESTS);
+        run(after, afterStatus, REQUESTS);
+        long bestBefore = Long.MAX_VALUE;
+        long bestAfter = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            bestBefore = Math.min(bestBefore, run(before, beforeStatus, REQUESTS));
+            bestAfter = Math.min(bestAfter, run(after, afterStatus, REQUESTS));
+        }
+        reportRequests(name + " before", bestBefore);
+        reportRequests(name + " after", bestAfter);
+    }
+
+    private long run(IntFunction<RequestBuilder> request, ResultMatcher expectedStatus, int count) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            mockMvc.perform(request.apply(i)).andExpect(expectedStatus);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long measure(LongFunction<Integer> path) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += path.apply(i);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += path.apply(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 0) {
+            throw new IllegalStateException();
+        }
+        return elapsed;
+    }
+
+    private static void throwAt(int depth, Supplier<RuntimeException> exception) {
+        if (depth == 0) {
+            throw exception.get();
+        }
+        throwAt(depth - 1, exception);
+    }
+
+    private static void report(String name, long elapsedNanos) {
+        System.out.printf("%-60s %,12.0f ops/s%n", name, ITERATIONS * 1e9 / elapsedNanos);
+    }
+
+    private static void reportRequests(String name, long elapsedNanos) {
+        System.out.printf("%-60s %,12.0f req/s%n", name, REQUESTS * 1e9 / elapsedNanos);
+    }
+
+    /**
+     * The original controller, try/catch included, kept only as the benchmark baseline.
+     */
+    @RestController
+    @RequestMapping("/benchmark/legacy/profiles")
+    @Validated
+    static class LegacyProfileController {
+
+        private final LegacyProfileService legacyService;
+
+        LegacyProfileController(LegacyProfileService legacyService) {
+            this.legacyService = legacyService;
+        }
+
+        @GetMapping("/{id}")
+        public ResponseEntity<UserProfileResponseDTO> getProfile(@PathVariable Long id) {
+            try {
+                UserProfileResponseDTO profile = legacyService.getProfileById(id);
+                return ResponseEntity.ok(profile);
+            } catch (RuntimeException e) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(null);
+            }
+        }
+
+        @PostMapping
+        public ResponseEntity<?> createProfile(@Valid @RequestBody UserProfileCreateDTO createDTO) {
+            try {
+                UserProfileResponseDTO profile = legacyService.createProfile(createDTO);
+                return ResponseEntity.status(HttpStatus.CREATED).body(profile);
+            } catch (RuntimeException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("error", e.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * The original service error paths: stack-capturing RuntimeExceptions. Lookups, DTO mapping
+     * and persistence go through the current service and {@link ProfileStore}, so the two sides
+     * differ only in how errors are reported.
+     */
+    @Service
+    static class LegacyProfileService {
+
+        private final UserProfileService profileService;
+        private final ProfileStore repository;
+
+        LegacyProfileService(UserProfileService profileService, ProfileStore repository) {
+            this.profileService = profileService;
+            this.repository = repository;
+        }
+
+        public UserProfileResponseDTO getProfileById(Long id) {
+            return profileService.getProfileById(id)
+                    .orElseThrow(() -> new RuntimeException("Profile not found with id: " + id));
+        }
+
+        @Transactional
+        public UserProfileResponseDTO createProfile(UserProfileCreateDTO createDTO) {
+            if (repository.existsByEmail(createDTO.getEmail())) {
+                throw new RuntimeException("Email already exists: " + createDTO.getEmail());
+            }
+            return profileService.createProfile(createDTO);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.userprofiles;
+
+import com.example.userprofiles.dto.UserProfileFilterDTO;
+import com.example.userprofiles.exception.DuplicateEmailException;
+import com.example.userprofiles.model.UserProfile;
+import com.example.userprofiles.repository.memory.InMemoryProfileStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryProfileStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private InMemoryProfileStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void testSaveAndFind() {
+        UserProfile saved = store.save(profile("John Doe", "john@example.com", "London"));
+
+        assertNotNull(saved.getId());
+        assertNotNull(saved.getCreatedAt());
+        UserProfile found = store.findById(saved.getId()).orElseThrow();
+        assertEquals("John Doe", found.getName());
+        assertEquals("john@example.com", found.getEmail());
+        assertEquals("London", found.getLocation());
+        assertTrue(store.existsById(saved.getId()));
+        assertTrue(store.existsByEmail("john@example.com"));
+        assertFalse(store.existsByEmail("jane@example.com"));
+    }
+
+    @Test
+    void testUpdateReindexesEmail() {
+        UserProfile saved = store.save(profile("John Doe", "john@example.com", null));
+
+        saved.setEmail("johnny@example.com");
+        store.save(saved);
+
+        assertFalse(store.existsByEmail("john@example.com"));
+        assertTrue(store.existsByEmail("johnny@example.com"));
+        assertEquals(saved.getId(), store.findById(saved.getId()).orElseThrow().getId());
+    }
+
+    @Test
+    void testDuplicateEmail() {
+        store.save(profile("John Doe", "john@example.com", null));
+
+        assertThrows(DuplicateEmailException.class,
+                () -> store.save(profile("Jane Doe", "john@example.com", null)));
+    }
+
+    @Test
+    void testNonPositiveIdsAreNeverFound() {
+        // The first profile occupies slot 0, which an empty hash bucket would otherwise point to
+        store.save(profile("John Doe", "john@example.com", null));
+
+        assertTrue(store.findById(0L).isEmpty());
+        assertFalse(store.existsById(0L));
+        assertFalse(store.existsById(-1L));
+        assertFalse(store.deleteById(0L));
+        assertTrue(store.existsByEmail("john@example.com"));
+    }
+
+    @Test
+    void testDeleteFreesSlotAndEmail() {
+        UserProfile saved = store.save(profile("John Doe", "john@example.com", null));
+
+        store.deleteById(saved.getId());
+
+        assertFalse(store.existsById(saved.getId()));
+        assertFalse(store.existsByEmail("john@example.com"));
+        UserProfile reused = store.save(profile("Jane Doe", "john@example.com", null));
+        assertNotEquals(saved.getId(), reused.getId());
+    }
+
+    @Test
+    void testFilterAndSort() {
+        for (int i = 0; i < 50; i++) {
+            store.save(profile((i % 2 == 0 ? "John " : "Jane ") + i, "user" + i + "@example.com", i % 5 == 0 ? "London" : "Paris"));
+        }
+
+        UserProfileFilterDTO filter = new UserProfileFilterDTO();
+        filter.setLocation("London");
+        filter.setNamePrefix("John");
+        List<UserProfile> result = store.findRange(filter, Sort.by(Sort.Order.desc("id")), 1, 3);
+
+        assertEquals(3, result.size());
+        assertTrue(result.stream().allMatch(p -> p.getLocation().equals("London") && p.getName().startsWith("John")));
+        assertTrue(result.get(0).getId() > result.get(1).getId());
+
+        filter = new UserProfileFilterDTO();
+        filter.setLocation("Berlin");
+        assertTrue(store.findRange(filter, Sort.by("id"), 0, 10).isEmpty());
+    }
+
+    @Test
+    void testPagesMatchFullSort() {
+        for (int i = 0; i < 40; i++) {
+            store.save(profile("User " + (char) ('a' + i % 7), "user" + i + "@example.com", null));
+        }
+        List<UserProfile> all = store.findRange(new UserProfileFilterDTO(), Sort.by(Sort.Order.desc("name")), 0, 100);
+        List<Long> expected = all.stream()
+                .sorted(Comparator.comparing(UserProfile::getName).reversed().thenComparing(UserProfile::getId))
+                .map(UserProfile::getId)
+                .toList();
+
+        assertEquals(expected, all.stream().map(UserProfile::getId).toList());
+        List<UserProfile> page = store.findRange(new UserProfileFilterDTO(), Sort.by(Sort.Order.desc("name")), 10, 5);
+        assertEquals(expected.subList(10, 15), page.stream().map(UserProfile::getId).toList());
+        assertTrue(store.findRange(new UserProfileFilterDTO(), Sort.by("name"), 40, 5).isEmpty());
+    }
+
+    @Test
+    void testFailedLogAppendLeavesMemoryUnchanged() throws IOException {
+        InMemoryProfileStore failing = new InMemoryProfileStore(directory.resolve("failing").toString(), 0, false);
+        failing.open();
+        UserProfile saved = failing.save(profile("John Doe", "john@example.com", null));
+        // Closing the store closes its write log, so every later append fails
+        failing.close();
+
+        saved.setEmail("johnny@example.com");
+        assertThrows(UncheckedIOException.class, () -> failing.save(saved));
+        assertThrows(UncheckedIOException.class, () -> failing.deleteById(saved.getId()));
+
+        assertTrue(failing.existsByEmail("john@example.com"));
+        assertFalse(failing.existsByEmail("johnny@example.com"));
+        assertTrue(failing.existsById(saved.getId()));
+    }
+
+    @Test
+    void testReloadFromLogAndSnapshot() throws IOException {
+        UserProfile first = store.save(profile("John Doe", "john@example.com", "London"));
+        store.snapshot();
+        UserProfile second = store.save(profile("Jane Doe", "jane@example.com", "Paris"));
+        store.deleteById(first.getId());
+
+        // Simulate a crash: reopen without the shutdown snapshot
+        InMemoryProfileStore reopened = open();
+        try {
+            assertFalse(reopened.existsById(first.getId()));
+            assertEquals("Jane Doe", reopened.findById(second.getId()).orElseThrow().getName());
+            assertTrue(reopened.existsByEmail("jane@example.com"));
+            assertTrue(reopened.save(profile("Jack Doe", "jack@example.com", null)).getId() > second.getId());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void testTornLogTailIsIgnored() throws IOException {
+        UserProfile saved = store.save(profile("John Doe", "john@example.com", null));
+        Files.write(directory.resolve("profiles.log"), new byte[] {1, 0, 0, 1, 0, 42}, StandardOpenOption.APPEND);
+
+        InMemoryProfileStore reopened = open();
+        try {
+            assertTrue(reopened.existsById(saved.getId()));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    private InMemoryProfileStore open() throws IOException {
+        InMemoryProfileStore opened = new InMemoryProfileStore(directory.toString(), 0, false);
+        opened.open();
+        return opened;
+    }
+
+    private static UserProfile profile(String name, String email, String location) {
+        UserProfile profile = new UserProfile();
+        profile.setName(name);
+        profile.setEmail(email);
+        profile.setLocation(location);
+        return profile;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.userprofiles;
+
+import com.example.userprofiles.dto.UserProfileCreateDTO;
+import com.example.userprofiles.dto.UserProfileResponseDTO;
+import com.example.userprofiles.repository.ProfileStore;
+import com.example.userprofiles.repository.memory.InMemoryProfileStore;
+import com.example.userprofiles.service.UserProfileService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * With the memory engine selected, the application must start without any JDBC or JPA infrastructure.
+ */
+@SpringBootTest(properties = {
+        "profile.store.engine=memory",
+        "profile.store.memory.directory=build/test-store/${random.uuid}",
+        "profile.store.memory.snapshot-interval-seconds=0"
+})
+@ActiveProfiles("test")
+class MemoryEngineContextTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private ProfileStore store;
+
+    @Autowired
+    private UserProfileService service;
+
+    @Test
+    void testNoDataSourceOrJpa() {
+        assertInstanceOf(InMemoryProfileStore.class, store);
+        assertEquals(0, context.getBeanNamesForType(DataSource.class).length);
+        assertEquals(0, context.getBeanNamesForType(PlatformTransactionManager.class).length);
+    }
+
+    @Test
+    void testServiceRunsOnMemoryStore() {
+        UserProfileCreateDTO createDTO = new UserProfileCreateDTO();
+        createDTO.setName("John Doe");
+        createDTO.setEmail("john@example.com");
+
+        UserProfileResponseDTO created = service.createProfile(createDTO);
+
+        assertEquals("John Doe", service.getProfileById(created.getId()).orElseThrow().getName());
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.userprofiles;
+
+import com.example.userprofiles.model.UserProfile;
+import com.example.userprofiles.observability.RequestSqlStats;
+import com.example.userprofiles.observability.SqlStatementMonitor;
+import com.example.userprofiles.repository.UserProfileRepository;
+import com.example.userprofiles.service.UserProfileService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ExtendWith(OutputCaptureExtension.class)
+@Import(SqlStatementMonitorTest.LegacyDeleteController.class)
+class SqlStatementMonitorTest {
+
+    @Autowired
+    private SqlStatementMonitor monitor;
+
+    @Autowired
+    private UserProfileService service;
+
+    @Autowired
+    private UserProfileRepository repository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void testDeleteRunsSingleLookup() {
+        UserProfile profile = new UserProfile();
+        profile.setName("John Doe");
+        profile.setEmail("john@example.com");
+        UserProfile saved = repository.save(profile);
+
+        monitor.beginRequest("DELETE /api/profiles/" + saved.getId());
+        service.deleteProfile(saved.getId());
+        RequestSqlStats stats = monitor.endRequest("DELETE /api/profiles/{id}");
+
+        assertEquals(2, stats.getStatementCount());
+        assertTrue(stats.getRepeatedStatements().isEmpty());
+    }
+
+    @Test
+    void testRepeatedStatementsAreDetected() {
+        monitor.beginRequest("GET /api/profiles/999");
+        assertTrue(service.getProfileById(999L).isEmpty());
+        assertTrue(service.getProfileById(999L).isEmpty());
+        RequestSqlStats stats = monitor.endRequest("GET /api/profiles/{id}");
+
+        assertEquals(2, stats.getStatementCount());
+        assertEquals(1, stats.getRepeatedStatements().size());
+        assertEquals(2, stats.getRepeatedStatements().values().iterator().next());
+    }
+
+    @Test
+    void testOverBudgetRequestIsLogged(CapturedOutput output) throws Exception {
+        Long id = saveProfile().getId();
+
+        // existsById, then deleteById's own lookup and the delete: one statement over the budget
+        mockMvc.perform(delete("/test/legacy/profiles/" + id)).andExpect(status().isNoContent());
+
+        assertTrue(awaitOutput(output, "DELETE /test/legacy/profiles/" + id + " ran 3 SQL statements"), output::getOut);
+        assertTrue(output.getOut().contains("(expected at most 2)"));
+    }
+
+    @Test
+    void testEndpointBudgetFlagsRequestWithinDefault(CapturedOutput output) throws Exception {
+        // Two lookups fit the default budget of 2, but GET /api/profiles/{id} expects 1
+        monitor.beginRequest("GET /api/profiles/998");
+        service.getProfileById(998L);
+        service.getProfileById(998L);
+        monitor.endRequest("GET /api/profiles/{id}");
+
+        assertTrue(awaitOutput(output, "GET /api/profiles/998 ran 2 SQL statements"), output::getOut);
+        assertTrue(output.getOut().contains("(expected at most 1)"));
+    }
+
+    @Test
+    void testEndpointBudgetAllowsRequestOverDefault(CapturedOutput output) throws Exception {
+        Long id = saveProfile().getId();
+
+        // Lookup, email check and update: one over the default budget, within the 3 PUT expects
+        mockMvc.perform(put("/api/profiles/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"changed" + id + "@example.com\"}"))
+                .andExpect(status().isOk());
+        // Flushed by a later warning on the same queue, so its absence is not a timing accident
+        mockMvc.perform(delete("/test/legacy/profiles/" + saveProfile().getId()));
+
+        assertTrue(awaitOutput(output, "DELETE /test/legacy/profiles/"));
+        assertFalse(output.getOut().contains("PUT /api/profiles/" + id + " ran"), output::getOut);
+    }
+
+    @Test
+    void testWithinBudgetRequestIsNotLogged(CapturedOutput output) throws Exception {
+        Long id = saveProfile().getId();
+
+        mockMvc.perform(delete("/api/profiles/" + id)).andExpect(status().isNoContent());
+        // Flushed by a later warning on the same queue, so its absence is not a timing accident
+        mockMvc.perform(delete("/test/legacy/profiles/" + saveProfile().getId()));
+
+        assertTrue(awaitOutput(output, "DELETE /test/legacy/profiles/"));
+        assertFalse(output.getOut().contains("DELETE /api/profiles/" + id + " ran"));
+    }
+
+    @Test
+    void testStatementsOutsideRequestAreNotTracked() {
+        repository.count();
+
+        assertNull(monitor.endRequest(null));
+    }
+
+    private UserProfile saveProfile() {
+        UserProfile profile = new UserProfile();
+        profile.setName("John Doe");
+        profile.setEmail("john" + System.nanoTime() + "@example.com");
+        return repository.save(profile);
+    }
+
+    /**
+     * Log entries are written from a background thread, so wait briefly for them.
+     */
+    private static boolean awaitOutput(CapturedOutput output, String text) throws InterruptedException {
+        for (int i = 0; i < 50 && !output.getOut().contains(text); i++) {
+            Thread.sleep(20);
+        }
+        return output.getOut().contains(text);
+    }
+
+    /**
+     * The delete pattern the service used before it switched to a single lookup.
+     */
+    @RestController
+    @RequestMapping("/test/legacy/profiles")
+    static class LegacyDeleteController {
+
+        private final UserProfileRepository repository;
+
+        LegacyDeleteController(UserProfileRepository repository) {
+            this.repository = repository;
+        }
+
+        @DeleteMapping("/{id}")
+        public ResponseEntity<Void> deleteProfile(@PathVariable Long id) {
+            if (!repository.existsById(id)) {
+                return ResponseEntity.notFound().build();
+            }
+            repository.deleteById(id);
+            return ResponseEntity.noContent().build();
+        }
+    }
+}
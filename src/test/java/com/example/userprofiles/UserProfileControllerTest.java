@@ -11,10 +11,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -75,8 +84,10 @@ class UserProfileControllerTest {
         mockMvc.perform(post("/api/profiles")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(createDTO)))
-                .andExpect(status().isBadRequest())
-                .andExpect(jsonPath("$.error").value("Email already exists: john@example.com"));
+                .andExpect(status().isConflict())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.detail").value("Email already exists: john@example.com"));
     }
 
     @Test
@@ -121,6 +132,49 @@ class UserProfileControllerTest {
                 .andExpect(jsonPath("$.length()").value(2));
     }
 
+    @Test
+    void testGetAllProfilesFilteredAndSorted() throws Exception {
+        UserProfile profile1 = new UserProfile();
+        profile1.setName("John Doe");
+        profile1.setEmail("john@example.com");
+        profile1.setLocation("London");
+        repository.save(profile1);
+
+        UserProfile profile2 = new UserProfile();
+        profile2.setName("Jane Doe");
+        profile2.setEmail("jane@example.com");
+        profile2.setLocation("London");
+        repository.save(profile2);
+
+        UserProfile profile3 = new UserProfile();
+        profile3.setName("Jack Doe");
+        profile3.setEmail("jack@example.com");
+        profile3.setLocation("Paris");
+        repository.save(profile3);
+
+        mockMvc.perform(get("/api/profiles")
+                        .param("location", "London")
+                        .param("sort", "-name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("John Doe"))
+                .andExpect(jsonPath("$[1].name").value("Jane Doe"));
+
+        mockMvc.perform(get("/api/profiles")
+                        .param("emailPrefix", "ja")
+                        .param("sort", "email"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].email").value("jack@example.com"));
+    }
+
+    @Test
+    void testGetAllProfilesUnknownSortKey() throws Exception {
+        mockMvc.perform(get("/api/profiles").param("sort", "bio"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.title").value("Invalid query"));
+    }
+
     @Test
     void testGetProfileById() throws Exception {
         UserProfile profile = new UserProfile();
@@ -137,7 +191,10 @@ class UserProfileControllerTest {
     @Test
     void testGetProfileNotFound() throws Exception {
         mockMvc.perform(get("/api/profiles/999"))
-                .andExpect(status().isNotFound());
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.title").value("Profile not found"))
+                .andExpect(jsonPath("$.detail").value("Profile not found with id: 999"));
     }
 
     @Test
@@ -161,6 +218,21 @@ class UserProfileControllerTest {
                 .andExpect(jsonPath("$.email").value("john@example.com"));
     }
 
+    @Test
+    void testUpdateIgnoresAvatarUrl() throws Exception {
+        UserProfile profile = new UserProfile();
+        profile.setName("John Doe");
+        profile.setEmail("john@example.com");
+        UserProfile saved = repository.save(profile);
+
+        // Avatars are only set by uploading; external URLs would let profiles hotlink other hosts
+        mockMvc.perform(put("/api/profiles/" + saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"avatarUrl\":\"https://other.example/avatar.png\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.avatarUrl").doesNotExist());
+    }
+
     @Test
     void testUpdateProfileNotFound() throws Exception {
         UserProfileUpdateDTO updateDTO = new UserProfileUpdateDTO();
@@ -202,7 +274,102 @@ class UserProfileControllerTest {
         mockMvc.perform(post("/api/profiles")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(createDTO)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.phone").exists());
+    }
+
+    @Test
+    void testUploadAvatar() throws Exception {
+        UserProfile profile = new UserProfile();
+        profile.setName("John Doe");
+        profile.setEmail("john@example.com");
+        UserProfile saved = repository.save(profile);
+
+        byte[] png = pngBytes(300, 200);
+        MockMultipartFile file = new MockMultipartFile("file", "avatar.png", "image/png", png);
+
+        String avatarUrl = objectMapper.readTree(mockMvc.perform(multipart("/api/profiles/" + saved.getId() + "/avatar").file(file)
+                                .header("Host", "evil.example"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.avatarUrl").value(matchesPattern("/api/avatars/[0-9a-f]{64}\\.png")))
+                        .andReturn().getResponse().getContentAsString())
+                .get("avatarUrl").asText();
+        String filename = avatarUrl.substring(avatarUrl.lastIndexOf('/') + 1);
+        String hash = filename.substring(0, filename.indexOf('.'));
+
+        mockMvc.perform(get("/api/avatars/" + filename))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andExpect(content().bytes(png))
+                .andExpect(header().string("Cache-Control", containsString("immutable")))
+                .andExpect(header().string("ETag", "\"" + hash + "\""));
+
+        mockMvc.perform(get("/api/avatars/" + filename).header("Range", "bytes=0-9"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 0-9/" + png.length))
+                .andExpect(header().longValue("Content-Length", 10));
+
+        mockMvc.perform(get("/api/avatars/" + filename).header("If-None-Match", "\"" + hash + "\""))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/api/avatars/" + hash + "_128.png"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"));
+    }
+
+    @Test
+    void testUploadAvatarProfileNotFound() throws Exception {
+        byte[] png = pngBytes(17, 11);
+        MockMultipartFile file = new MockMultipartFile("file", "avatar.png", "image/png", png);
+
+        mockMvc.perform(multipart("/api/profiles/999/avatar").file(file))
+                .andExpect(status().isNotFound());
+
+        // Nothing is stored for an unknown profile
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(png));
+        mockMvc.perform(get("/api/avatars/" + hash + ".png"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testUploadAvatarNotAnImage() throws Exception {
+        UserProfile profile = new UserProfile();
+        profile.setName("John Doe");
+        profile.setEmail("john@example.com");
+        UserProfile saved = repository.save(profile);
+
+        MockMultipartFile file = new MockMultipartFile("file", "avatar.png", "image/png", "not an image".getBytes());
+
+        mockMvc.perform(multipart("/api/profiles/" + saved.getId() + "/avatar").file(file))
                 .andExpect(status().isBadRequest());
     }
-}
 
+    @Test
+    void testUploadAvatarTooLarge() throws Exception {
+        UserProfile profile = new UserProfile();
+        profile.setName("John Doe");
+        profile.setEmail("john@example.com");
+        UserProfile saved = repository.save(profile);
+
+        MockMultipartFile file = new MockMultipartFile("file", "avatar.png", "image/png", new byte[6 * 1024 * 1024]);
+
+        mockMvc.perform(multipart("/api/profiles/" + saved.getId() + "/avatar").file(file))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.title").value("Upload too large"));
+    }
+
+    @Test
+    void testGetAvatarNotFound() throws Exception {
+        mockMvc.perform(get("/api/avatars/passwd"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/avatars/" + "0".repeat(64) + ".png"))
+                .andExpect(status().isNotFound());
+    }
+
+    private static byte[] pngBytes(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.userprofiles;
+
+import com.example.userprofiles.dto.UserProfileFilterDTO;
+import com.example.userprofiles.dto.UserProfileResponseDTO;
+import com.example.userprofiles.model.UserProfile;
+import com.example.userprofiles.repository.UserProfileRepository;
+import com.example.userprofiles.service.UserProfileService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that every supported list filter is answered through an index rather than a table scan,
+ * by running H2's EXPLAIN on the SQL Hibernate actually generates.
+ *
+ * Criteria values are inlined for this context only, so the captured SQL can be EXPLAINed as-is;
+ * the rest of the suite keeps Hibernate's default bind parameters.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.userprofiles.SqlCapture",
+        "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline"
+})
+@ActiveProfiles("test")
+class UserProfileQueryPlanTest {
+
+    private static final String[] LOCATIONS = {"New York", "London", "Berlin", "Tokyo", "Paris"};
+
+    @Autowired
+    private UserProfileService service;
+
+    @Autowired
+    private UserProfileRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        List<UserProfile> profiles = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            UserProfile profile = new UserProfile();
+            profile.setName((i % 2 == 0 ? "John " : "Jane ") + "Doe" + i);
+            profile.setEmail("user" + i + "@example.com");
+            profile.setLocation(LOCATIONS[i % LOCATIONS.length]);
+            profiles.add(profile);
+        }
+        repository.saveAll(profiles);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void testFilterByLocation() {
+        List<UserProfileResponseDTO> result = list(filter -> filter.setLocation("London"), "-createdAt");
+
+        assertEquals(10, result.size());
+        assertTrue(result.stream().allMatch(p -> p.getLocation().equals("London")));
+        assertPlanUses("IDX_LOCATION_");
+    }
+
+    @Test
+    void testFilterByLocationAndCreatedRange() {
+        LocalDateTime now = LocalDateTime.now();
+        list(filter -> {
+            filter.setLocation("Berlin");
+            filter.setCreatedAfter(now.minusDays(7));
+            filter.setCreatedBefore(now.plusDays(1));
+        }, "-createdAt");
+
+        assertPlanUses("IDX_LOCATION_CREATED_AT");
+    }
+
+    @Test
+    void testFilterByLocationAndUpdatedRange() {
+        LocalDateTime now = LocalDateTime.now();
+        list(filter -> {
+            filter.setLocation("Berlin");
+            filter.setUpdatedAfter(now.minusDays(7));
+        }, null);
+
+        assertPlanUses("IDX_LOCATION_");
+    }
+
+    @Test
+    void testFilterByCreatedRange() {
+        LocalDateTime now = LocalDateTime.now();
+        list(filter -> {
+            filter.setCreatedAfter(now.minusDays(7));
+            filter.setCreatedBefore(now.plusDays(1));
+        }, null);
+
+        assertPlanUses("IDX_CREATED_AT");
+    }
+
+    @Test
+    void testFilterByUpdatedRange() {
+        list(filter -> filter.setUpdatedBefore(LocalDateTime.now().plusDays(1)), null);
+
+        assertPlanUses("IDX_UPDATED_AT");
+    }
+
+    @Test
+    void testFilterByNamePrefix() {
+        List<UserProfileResponseDTO> result = list(filter -> filter.setNamePrefix("Jane"), "name");
+
+        assertEquals(10, result.size());
+        assertTrue(result.stream().allMatch(p -> p.getName().startsWith("Jane")));
+        assertPlanUses("IDX_NAME");
+    }
+
+    @Test
+    void testFilterByEmailPrefix() {
+        List<UserProfileResponseDTO> result = list(filter -> filter.setEmailPrefix("USER1"), null);
+
+        assertTrue(result.stream().allMatch(p -> p.getEmail().startsWith("user1")));
+        assertPlanUses("IDX_EMAIL", "CONSTRAINT_INDEX");
+    }
+
+    @Test
+    void testPrefixWildcardsAreLiteral() {
+        List<UserProfileResponseDTO> result = list(filter -> filter.setNamePrefix("J%"), null);
+
+        assertTrue(result.isEmpty());
+    }
+
+    private List<UserProfileResponseDTO> list(Consumer<UserProfileFilterDTO> configure, String sort) {
+        UserProfileFilterDTO filter = new UserProfileFilterDTO();
+        configure.accept(filter);
+        SqlCapture.clear();
+        return service.getAllProfiles(filter, sort, 0, 10);
+    }
+
+    private void assertPlanUses(String... acceptableIndexes) {
+        String sql = SqlCapture.statements().stream()
+                .filter(statement -> statement.toLowerCase().startsWith("select"))
+                .reduce((first, second) -> second)
+                .orElseThrow(() -> new AssertionError("No select statement captured"));
+        // Only offset/limit remain as bind parameters
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql.replace("?", "10"), String.class);
+
+        assertFalse(plan.contains("tableScan"), "Full table scan:\n" + plan);
+        boolean usesIndex = false;
+        for (String index : acceptableIndexes) {
+            usesIndex |= plan.contains(index);
+        }
+        assertTrue(usesIndex, "Expected one of " + String.join(", ", acceptableIndexes) + ":\n" + plan);
+    }
+}
@@ -2,6 +2,9 @@ package com.example.userprofiles;
 
 import com.example.userprofiles.dto.UserProfileCreateDTO;
 import com.example.userprofiles.dto.UserProfileUpdateDTO;
+import com.example.userprofiles.exception.DuplicateEmailException;
+import com.example.userprofiles.exception.InvalidProfileException;
+import com.example.userprofiles.exception.ProfileNotFoundException;
 import com.example.userprofiles.model.UserProfile;
 import com.example.userprofiles.repository.UserProfileRepository;
 import com.example.userprofiles.service.UserProfileService;
@@ -53,7 +56,7 @@ class UserProfileServiceTest {
         createDTO.setName("Jane Doe");
         createDTO.setEmail("john@example.com");
 
-        assertThrows(RuntimeException.class, () -> service.createProfile(createDTO));
+        assertThrows(DuplicateEmailException.class, () -> service.createProfile(createDTO));
     }
 
     @Test
@@ -63,7 +66,7 @@ class UserProfileServiceTest {
         profile.setEmail("john@example.com");
         UserProfile saved = repository.save(profile);
 
-        var response = service.getProfileById(saved.getId());
+        var response = service.getProfileById(saved.getId()).orElseThrow();
 
         assertNotNull(response);
         assertEquals(saved.getId(), response.getId());
@@ -72,7 +75,7 @@ class UserProfileServiceTest {
 
     @Test
     void testGetProfileNotFound() {
-        assertThrows(RuntimeException.class, () -> service.getProfileById(999L));
+        assertTrue(service.getProfileById(999L).isEmpty());
     }
 
     @Test
@@ -106,6 +109,12 @@ class UserProfileServiceTest {
         assertFalse(repository.existsById(saved.getId()));
     }
 
+    @Test
+    void testDeleteProfileNotFound() {
+        ProfileNotFoundException ex = assertThrows(ProfileNotFoundException.class, () -> service.deleteProfile(999L));
+        assertEquals(0, ex.getStackTrace().length);
+    }
+
     @Test
     void testPhoneValidation() {
         UserProfileCreateDTO createDTO = new UserProfileCreateDTO();
@@ -113,7 +122,7 @@ class UserProfileServiceTest {
         createDTO.setEmail("john@example.com");
         createDTO.setPhone("123"); // Too short
 
-        assertThrows(RuntimeException.class, () -> service.createProfile(createDTO));
+        assertThrows(InvalidProfileException.class, () -> service.createProfile(createDTO));
     }
 }
 
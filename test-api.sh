@@ -47,10 +47,10 @@ DUPLICATE_RESPONSE=$(curl -s -w "\nHTTP_STATUS:%{http_code}" -X POST $BASE_URL \
   -H "Content-Type: application/json" \
   -d '{"name":"Another User","email":"test@example.com"}')
 HTTP_STATUS=$(echo "$DUPLICATE_RESPONSE" | grep "HTTP_STATUS" | cut -d: -f2)
-if [ "$HTTP_STATUS" == "400" ]; then
+if [ "$HTTP_STATUS" == "409" ]; then
     echo "✓ Duplicate email validation working correctly"
 else
-    echo "✗ Duplicate email validation failed (Expected 400, got $HTTP_STATUS)"
+    echo "✗ Duplicate email validation failed (Expected 409, got $HTTP_STATUS)"
 fi
 echo ""
 